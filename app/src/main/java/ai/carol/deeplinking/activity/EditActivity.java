@@ -72,15 +72,30 @@ public final class EditActivity extends AppCompatActivity {
     //region - Private Action
 
     private void save() {
+        final String organization = getString(mEdtOrganization);
+        final String environment = getString(mEdtEnvironment);
+
+        if (isEmpty(organization) || isEmpty(environment)) {
+            mEdtOrganization.setError(isEmpty(organization) ? getText(R.string.fill_all_fields) : null);
+            mEdtEnvironment.setError(isEmpty(environment) ? getText(R.string.fill_all_fields) : null);
+            return;
+        }
+
+        // each organization/environment pair has its own profile, saving switches to it
         final Context context = getApplicationContext();
-        DatabaseHelper.saveOrganization(context, getString(mEdtOrganization));
-        DatabaseHelper.saveEnvironment(context, getString(mEdtEnvironment));
+        DatabaseHelper.saveProfile(context, organization, environment);
         DatabaseHelper.saveEmail(context, getString(mEdtEmail));
-        DatabaseHelper.savePassword(context, getString(mEdtPassword));
         DatabaseHelper.saveAppScheme(context, getString(mEdtAppScheme));
         DatabaseHelper.saveAppName(context, getString(mEdtAppName));
         DatabaseHelper.saveAppIdentifier(context, getString(mEdtAppIdentifier));
 
+        try {
+            DatabaseHelper.savePassword(context, getString(mEdtPassword));
+        } catch (IllegalStateException exception) {
+            mEdtPassword.setError(getText(R.string.password_not_saved));
+            return;
+        }
+
         finish();
     }
 
@@ -98,5 +113,9 @@ public final class EditActivity extends AppCompatActivity {
         return editable.toString().trim();
     }
 
+    private boolean isEmpty(final String str) {
+        return str == null || str.isEmpty();
+    }
+
     //endregion
 }
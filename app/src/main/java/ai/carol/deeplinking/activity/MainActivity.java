@@ -10,6 +10,10 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
 import androidx.appcompat.widget.AppCompatTextView;
 
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.text.DateFormat;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -17,12 +21,17 @@ import ai.carol.deeplinking.R;
 import ai.carol.deeplinking.helper.AlertHelper;
 import ai.carol.deeplinking.helper.ConverterHelper;
 import ai.carol.deeplinking.helper.DatabaseHelper;
+import ai.carol.deeplinking.manager.ClockInIntakeQueue;
+import ai.carol.deeplinking.manager.ClockInManager;
 import ai.carol.deeplinking.model.ClockInObject;
+import ai.carol.deeplinking.model.ClockInSummaryObject;
+import ai.carol.deeplinking.model.ProfileObject;
 
 public final class MainActivity extends AppCompatActivity {
 
     private static final String ZERO_TEXT = "0";
     private static final String EMPTY_TEXT = "-";
+    private static final int CLOCKINS_DISPLAY_LIMIT = 100;
 
     private AppCompatTextView mTxtOrganization;
     private AppCompatTextView mTxtEnvironment;
@@ -32,11 +41,16 @@ public final class MainActivity extends AppCompatActivity {
     private AppCompatTextView mTxtAppName;
     private AppCompatTextView mTxtAppIdentifier;
     private AppCompatTextView mTxtClockInsCounter;
+    private AppCompatTextView mTxtClockInsSummary;
     private AppCompatTextView mTxtClockIns;
     private AppCompatButton mBtnEdit;
+    private AppCompatButton mBtnProfiles;
     private AppCompatButton mBtnResetClockIns;
     private AppCompatButton mBtnSendData;
 
+    private int mDisplayedSettingsVersion = -1;
+    private ClockInSummaryObject mDisplayedSummary;
+
     //region - AppCompatActivity
 
     @Override
@@ -52,14 +66,17 @@ public final class MainActivity extends AppCompatActivity {
         mTxtAppName = findViewById(R.id.txt_app_name);
         mTxtAppIdentifier = findViewById(R.id.txt_app_identifier);
         mTxtClockInsCounter = findViewById(R.id.txt_clockins_counter);
+        mTxtClockInsSummary = findViewById(R.id.txt_clockins_summary);
         mTxtClockIns = findViewById(R.id.txt_clockins);
         mBtnEdit = findViewById(R.id.btn_edit);
+        mBtnProfiles = findViewById(R.id.btn_profiles);
         mBtnResetClockIns = findViewById(R.id.btn_reset_clockins);
         mBtnSendData = findViewById(R.id.btn_send_data);
 
         mTxtClockIns.setMovementMethod(new ScrollingMovementMethod());
 
         mBtnEdit.setOnClickListener((view) -> startEditActivity());
+        mBtnProfiles.setOnClickListener((view) -> showProfiles());
         mBtnResetClockIns.setOnClickListener((view) -> resetClockIns());
         mBtnSendData.setOnClickListener((view) -> startSendDataActivity());
     }
@@ -67,9 +84,19 @@ public final class MainActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+
+        // back from Clock-In without a callback, the login may be started again
+        ClockInManager.completeRequest();
+        ClockInIntakeQueue.getInstance(getApplicationContext()).addListener(mIntakeListener);
         refreshData();
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        ClockInIntakeQueue.getInstance(getApplicationContext()).removeListener(mIntakeListener);
+    }
+
     //endregion
 
     //region - Private Action
@@ -79,6 +106,18 @@ public final class MainActivity extends AppCompatActivity {
         startActivity(editIntent);
     }
 
+    private void showProfiles() {
+        final Context context = getApplicationContext();
+        final List<ProfileObject> profiles = DatabaseHelper.fetchProfiles(context);
+
+        if (profiles.isEmpty()) {
+            startEditActivity();
+            return;
+        }
+
+        AlertHelper.showProfilesAlert(this, profiles, mProfileListener);
+    }
+
     private void startSendDataActivity() {
         final String organization = getString(mTxtOrganization);
         final String environment = getString(mTxtEnvironment);
@@ -105,22 +144,54 @@ public final class MainActivity extends AppCompatActivity {
 
     private void resetClockIns() {
         final Context context = getApplicationContext();
-        DatabaseHelper.saveClockIns(context, null);
+        ClockInIntakeQueue.getInstance(context).enqueueReset();
 
-        mTxtClockInsCounter.setText(ZERO_TEXT);
-        mTxtClockIns.setText(EMPTY_TEXT);
+        // keeps the stale summary from being drawn until the writer publishes the empty one
+        mDisplayedSummary = DatabaseHelper.fetchClockInSummary(context);
+        clearClockIns();
     }
 
     //endregion
 
     //region - Private Helper
 
+    private void clearClockIns() {
+        mTxtClockInsCounter.setText(ZERO_TEXT);
+        mTxtClockInsSummary.setText(EMPTY_TEXT);
+        mTxtClockIns.setText(EMPTY_TEXT);
+    }
+
     private String getString(final AppCompatTextView textView) {
         return textView.getText().toString();
     }
 
+    // only redraws what changed since the last call, both checks are in-memory
     private void refreshData() {
         final Context context = getApplicationContext();
+        final int settingsVersion = DatabaseHelper.fetchSettingsVersion();
+
+        if (settingsVersion != mDisplayedSettingsVersion) {
+            mDisplayedSettingsVersion = settingsVersion;
+            mDisplayedSummary = null;
+            refreshSettings();
+        }
+
+        final ClockInSummaryObject summary = DatabaseHelper.fetchClockInSummary(context);
+
+        if (summary != mDisplayedSummary) {
+            mDisplayedSummary = summary;
+            refreshClockIns(summary);
+        }
+
+        final int rejectedCount = ClockInIntakeQueue.getInstance(context).takeRejectedCount();
+
+        if (rejectedCount > 0) {
+            AlertHelper.showRejectedAlert(this, rejectedCount);
+        }
+    }
+
+    private void refreshSettings() {
+        final Context context = getApplicationContext();
 
         mTxtOrganization.setText(DatabaseHelper.fetchOrganization(context));
         mTxtEnvironment.setText(DatabaseHelper.fetchEnvironment(context));
@@ -129,21 +200,53 @@ public final class MainActivity extends AppCompatActivity {
         mTxtAppScheme.setText(DatabaseHelper.fetchAppScheme(context));
         mTxtAppName.setText(DatabaseHelper.fetchAppName(context));
         mTxtAppIdentifier.setText(DatabaseHelper.fetchAppIdentifier(context));
+    }
 
-        final String clockInsStr = DatabaseHelper.fetchClockIns(context);
+    private void refreshClockIns(final ClockInSummaryObject summary) {
+        final Context context = getApplicationContext();
+        final int clockInsCount = summary.getCount();
 
-        if (clockInsStr == null) {
-            resetClockIns();
+        if (clockInsCount == 0) {
+            clearClockIns();
             return;
         }
 
-        final List<ClockInObject> clockIns = ConverterHelper.getClockInsFromString(clockInsStr);
-        final String clockInsCounter = String.format(Locale.getDefault(), "%d", clockIns.size());
+        final String clockInsCounter = String.format(Locale.getDefault(), "%d", clockInsCount);
 
         mTxtClockInsCounter.setText(clockInsCounter);
-        mTxtClockIns.setText(clockInsStr);
+        mTxtClockInsSummary.setText(getSummaryString(summary));
+
+        // only the latest clock-ins are decrypted and displayed, in the order they happened
+        try {
+            final List<ClockInObject> clockIns = DatabaseHelper.fetchClockIns(context, clockInsCount - CLOCKINS_DISPLAY_LIMIT, clockInsCount);
+            ConverterHelper.sortClockInsByDatetime(clockIns);
+            mTxtClockIns.setText(ConverterHelper.getStringFromClockIns(clockIns));
+        } catch (GeneralSecurityException | IOException exception) {
+            mTxtClockIns.setText(R.string.clockins_unreadable);
+        }
     }
 
+    private String getSummaryString(final ClockInSummaryObject summary) {
+        final DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+
+        final String firstClockIn = summary.hasClockInTimes() ? dateFormat.format(new Date(summary.getFirstClockInAt())) : EMPTY_TEXT;
+        final String lastClockIn = summary.hasClockInTimes() ? dateFormat.format(new Date(summary.getLastClockInAt())) : EMPTY_TEXT;
+        final String lastReceived = summary.hasReceivedAt() ? dateFormat.format(new Date(summary.getLastReceivedAt())) : EMPTY_TEXT;
+
+        return getString(R.string.clockins_summary, summary.getEmployeesCount(), firstClockIn, lastClockIn, lastReceived);
+    }
+
+    //endregion
+
+    //region - Private Listeners
+
+    private final ClockInIntakeQueue.Listener mIntakeListener = () -> refreshData();
+
+    private final AlertHelper.ProfileListener mProfileListener = (profile) -> {
+        DatabaseHelper.saveActiveProfile(getApplicationContext(), profile);
+        refreshData();
+    };
+
     //endregion
 
 }
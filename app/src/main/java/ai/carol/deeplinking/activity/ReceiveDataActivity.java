@@ -2,42 +2,60 @@ package ai.carol.deeplinking.activity;
 
 import android.content.Context;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.util.List;
-
-import ai.carol.deeplinking.helper.ConverterHelper;
-import ai.carol.deeplinking.helper.DatabaseHelper;
+import ai.carol.deeplinking.manager.ClockInIntakeQueue;
 import ai.carol.deeplinking.manager.ClockInManager;
-import ai.carol.deeplinking.model.ClockInObject;
 
 public final class ReceiveDataActivity extends AppCompatActivity {
 
     private final ClockInManager mManager = new ClockInManager(this);
 
+    private int mPendingJournals;
+
     //region - AppCompatActivity
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        receiveDataFromClockIn();
+        receiveDataFromClockIn(getIntent());
+    }
+
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+        setIntent(intent);
+        receiveDataFromClockIn(intent);
     }
 
     //endregion
 
     //region - Private Action
 
-    private void receiveDataFromClockIn() {
-        final List<ClockInObject> clockIns = mManager.getClockIns(getIntent());
-        handleData(clockIns);
+    private void receiveDataFromClockIn(final Intent intent) {
+        final Context context = getApplicationContext();
+        final Uri dataUri = mManager.getClockInsUri(intent);
 
-        if (isTaskRoot()) {
-            final Context context = getApplicationContext();
+        if (dataUri != null) {
+            mPendingJournals++;
+            ClockInIntakeQueue.getInstance(context).enqueue(dataUri, mManager.getClockInsContentUri(intent, dataUri), mJournalListener);
+        }
+
+        finishIfJournaled();
+    }
 
-            Intent mainIntent = new Intent(context, MainActivity.class);
+    // IMPORTANT - finishing drops the read grant of a shared content:// uri, so wait for the payload to be copied
+    private void finishIfJournaled() {
+        if (mPendingJournals > 0 || isFinishing()) {
+            return;
+        }
+
+        if (isTaskRoot()) {
+            Intent mainIntent = new Intent(getApplicationContext(), MainActivity.class);
             mainIntent = mainIntent.setFlags(Intent.FLAG_ACTIVITY_NO_ANIMATION);
 
             startActivity(mainIntent);
@@ -48,21 +66,13 @@ public final class ReceiveDataActivity extends AppCompatActivity {
 
     //endregion
 
-    //region - Private Helper
-
-    private void handleData(final List<ClockInObject> clockIns) {
-        final Context context = getApplicationContext();
-        String clockInsStr = null;
-
-        if (clockIns != null) {
-            clockInsStr = ConverterHelper.getStringFromClockIns(clockIns);
-        }
+    //region - Private Listeners
 
-        DatabaseHelper.saveClockIns(context, clockInsStr);
-    }
+    private final ClockInIntakeQueue.JournalListener mJournalListener = () -> {
+        mPendingJournals--;
+        finishIfJournaled();
+    };
 
     //endregion
 
-
-
 }
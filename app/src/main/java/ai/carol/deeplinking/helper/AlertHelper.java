@@ -8,8 +8,11 @@ import android.net.Uri;
 
 import androidx.annotation.NonNull;
 
+import java.util.List;
+
 import ai.carol.deeplinking.R;
 import ai.carol.deeplinking.activity.EditActivity;
+import ai.carol.deeplinking.model.ProfileObject;
 
 public final class AlertHelper {
 
@@ -42,6 +45,29 @@ public final class AlertHelper {
                 .show();
     }
 
+    public static void showRejectedAlert(@NonNull final Activity activity, final int rejectedCount) {
+        new AlertDialog.Builder(activity)
+                .setTitle(R.string.app_name)
+                .setMessage(activity.getString(R.string.clockins_rejected, rejectedCount))
+                .setPositiveButton(android.R.string.ok, null)
+                .show();
+    }
+
+    public static void showProfilesAlert(@NonNull final Activity activity,
+                                         @NonNull final List<ProfileObject> profiles,
+                                         @NonNull final ProfileListener listener) {
+        final CharSequence[] items = new CharSequence[profiles.size()];
+        for (int i = 0; i < items.length; i++) {
+            final ProfileObject profile = profiles.get(i);
+            items[i] = profile.getOrganization().isEmpty() ? activity.getString(R.string.default_profile) : profile.toString();
+        }
+
+        new AlertDialog.Builder(activity)
+                .setTitle(R.string.profiles)
+                .setItems(items, (dialog, which) -> listener.onSelect(profiles.get(which)))
+                .show();
+    }
+
     //endregion
 
     //region - Private
@@ -69,6 +95,10 @@ public final class AlertHelper {
         void onConfirm();
     }
 
+    public interface ProfileListener {
+        void onSelect(@NonNull ProfileObject profile);
+    }
+
     //endregion
 
 }
@@ -3,10 +3,16 @@ package ai.carol.deeplinking.helper;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import ai.carol.deeplinking.model.ClockInDataObject;
 import ai.carol.deeplinking.model.ClockInObject;
+import ai.carol.deeplinking.model.ClockInSummaryObject;
+import ai.carol.deeplinking.model.ProfileObject;
 
 public final class ConverterHelper {
 
@@ -23,10 +29,91 @@ public final class ConverterHelper {
         return new Gson().fromJson(str, type);
     }
 
+    public static List<ClockInObject> getClockInsFromReader(final Reader reader) {
+        if (reader == null) {
+            return null;
+        }
+
+        return new Gson().fromJson(reader, getClockInsType());
+    }
+
     public static String getStringFromClockIns(final List<ClockInObject> clockIns) {
         return new Gson().toJson(clockIns, getClockInsType());
     }
 
+    public static ClockInSummaryObject getClockInSummaryFromString(final String str) {
+        if (str == null) {
+            return null;
+        }
+
+        return new Gson().fromJson(str, ClockInSummaryObject.class);
+    }
+
+    public static String getStringFromClockInSummary(final ClockInSummaryObject summary) {
+        return new Gson().toJson(summary, ClockInSummaryObject.class);
+    }
+
+    public static List<ProfileObject> getProfilesFromString(final String str) {
+        if (str == null) {
+            return null;
+        }
+
+        return new Gson().fromJson(str, getProfilesType());
+    }
+
+    public static String getStringFromProfiles(final List<ProfileObject> profiles) {
+        return new Gson().toJson(profiles, getProfilesType());
+    }
+
+    public static void sortClockInsByDatetime(final List<ClockInObject> clockIns) {
+        if (clockIns == null || clockIns.size() < 2) {
+            return;
+        }
+
+        // parse each datetime once, the parser caches the repeated dates of the batch
+        final DateTimeParser parser = new DateTimeParser();
+        final int size = clockIns.size();
+        final long[] datetimes = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            datetimes[i] = getClockInDatetime(parser, clockIns.get(i));
+        }
+
+        final long[] sortedDatetimes = Arrays.copyOf(datetimes, size);
+        Arrays.sort(sortedDatetimes);
+
+        // the rank of the datetime goes in the high bits and the index in the low ones, so equal datetimes keep their order
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) Arrays.binarySearch(sortedDatetimes, datetimes[i]) << 32) | i;
+        }
+
+        Arrays.sort(keys);
+
+        final List<ClockInObject> sortedClockIns = new ArrayList<>(size);
+        for (long key : keys) {
+            sortedClockIns.add(clockIns.get((int) key));
+        }
+
+        for (int i = 0; i < size; i++) {
+            clockIns.set(i, sortedClockIns.get(i));
+        }
+    }
+
+    public static long getClockInDatetime(final DateTimeParser parser, final ClockInObject clockIn) {
+        final ClockInDataObject data = clockIn == null ? null : clockIn.getData();
+        if (data == null) {
+            return Long.MAX_VALUE;
+        }
+
+        long datetime = parser.parseEpochMillis(data.getClockinDatetime());
+        if (datetime == DateTimeParser.INVALID_TIME) {
+            datetime = parser.parseEpochMillis(data.getClockinDatetimeStr());
+        }
+
+        return datetime == DateTimeParser.INVALID_TIME ? Long.MAX_VALUE : datetime;
+    }
+
     //endregion
 
     //region - Private
@@ -35,6 +122,10 @@ public final class ConverterHelper {
         return new TypeToken<List<ClockInObject>>(){}.getType();
     }
 
+    private static Type getProfilesType() {
+        return new TypeToken<List<ProfileObject>>(){}.getType();
+    }
+
     //endregion
 
 }
@@ -0,0 +1,294 @@
+package ai.carol.deeplinking.helper;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.security.KeyPairGeneratorSpec;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+import java.util.Calendar;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.security.auth.x500.X500Principal;
+
+public final class CryptoHelper {
+
+    private static final String KEY_STORE = "AndroidKeyStore";
+    private static final String WRAPPING_KEY_ALIAS = "ai.carol.deeplinking.wrappingKey";
+    private static final String WRAPPING_KEY_ALGORITHM = "RSA";
+    private static final String WRAPPING_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+    private static final String KEY_ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String CHARSET = "UTF-8";
+
+    private static final String KEY_DB_NAME = "ai.carol.deeplinking.database.key";
+    private static final String DATA_KEY_KEY = "v2.dataKey";
+
+    private static final int KEY_LENGTH = 32;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+    private static final int WRAPPING_KEY_YEARS = 30;
+
+    private static final String PLAIN_PREFIX = "0:";
+    private static final String ENCRYPTED_PREFIX = "1:";
+    private static final byte PLAIN_HEADER = 0;
+    private static final byte ENCRYPTED_HEADER = 1;
+
+    private static final SecureRandom sRandom = new SecureRandom();
+    private static volatile SecretKey sKey;
+
+    private CryptoHelper() { }
+
+    //region - Public
+
+    public static String encrypt(@NonNull final Context context, final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        // IMPORTANT - the key store can only wrap the key from Android KitKat on, from then on a value is never stored as plain text
+        if (!isSupported()) {
+            return PLAIN_PREFIX + value;
+        }
+
+        try {
+            return ENCRYPTED_PREFIX + Base64.encodeToString(encryptWithKey(getKey(context), value.getBytes(CHARSET)), Base64.NO_WRAP);
+        } catch (GeneralSecurityException | UnsupportedEncodingException exception) {
+            throw new IllegalStateException("Could not encrypt the value", exception);
+        }
+    }
+
+    // a value that can no longer be decrypted, e.g. after the key store was reset or a backup was restored, throws
+    public static String decrypt(@NonNull final Context context, final String value) throws GeneralSecurityException {
+        if (value == null) {
+            return null;
+        }
+
+        if (value.startsWith(PLAIN_PREFIX)) {
+            return value.substring(PLAIN_PREFIX.length());
+        }
+
+        if (!value.startsWith(ENCRYPTED_PREFIX) || !isSupported()) {
+            throw new GeneralSecurityException("Unsupported value");
+        }
+
+        try {
+            final byte[] input = Base64.decode(value.substring(ENCRYPTED_PREFIX.length()), Base64.NO_WRAP);
+            return new String(decryptWithKey(getKey(context), input), CHARSET);
+        } catch (UnsupportedEncodingException | IllegalArgumentException exception) {
+            throw new GeneralSecurityException(exception);
+        }
+    }
+
+    // tells a value that was tampered with or encrypted by a lost key from a failure that may pass on a retry
+    public static boolean isAuthenticationFailure(@NonNull final GeneralSecurityException exception) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && exception instanceof AEADBadTagException;
+    }
+
+    // the binary form of the values above, a header byte tells whether the rest is plain or encrypted
+    public static byte[] encrypt(@NonNull final Context context, @NonNull final byte[] value) {
+        if (!isSupported()) {
+            return addHeader(PLAIN_HEADER, value);
+        }
+
+        try {
+            return addHeader(ENCRYPTED_HEADER, encryptWithKey(getKey(context), value));
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("Could not encrypt the value", exception);
+        }
+    }
+
+    public static byte[] decrypt(@NonNull final Context context, @NonNull final byte[] value) throws GeneralSecurityException {
+        if (value.length > 0 && value[0] == PLAIN_HEADER) {
+            return Arrays.copyOfRange(value, 1, value.length);
+        }
+
+        if (value.length == 0 || value[0] != ENCRYPTED_HEADER || !isSupported()) {
+            throw new GeneralSecurityException("Unsupported value");
+        }
+
+        return decryptWithKey(getKey(context), Arrays.copyOfRange(value, 1, value.length));
+    }
+
+    public static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+    }
+
+    // stands in for the data key the key store would unwrap, the key store is not available off a device
+    @VisibleForTesting
+    public static void setKey(@Nullable final SecretKey key) {
+        sKey = key;
+    }
+
+    // a value saved before the key could be wrapped, e.g. before the system was updated to KitKat
+    public static boolean isPlain(final String value) {
+        return value != null && value.startsWith(PLAIN_PREFIX);
+    }
+
+    public static boolean isPlain(@NonNull final byte[] value) {
+        return value.length > 0 && value[0] == PLAIN_HEADER;
+    }
+
+    // a fixed length hex digest, safe to use in file names whatever the length of the value
+    public static String hash(final String value) {
+        try {
+            final byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(value.getBytes(CHARSET));
+            final StringBuilder builder = new StringBuilder(digest.length * 2);
+
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return builder.toString();
+        } catch (GeneralSecurityException | UnsupportedEncodingException exception) {
+            throw new IllegalStateException("Could not hash the value", exception);
+        }
+    }
+
+    //endregion
+
+    //region - Private Cipher
+
+    private static byte[] addHeader(final byte header, @NonNull final byte[] value) {
+        final byte[] output = new byte[value.length + 1];
+        output[0] = header;
+        System.arraycopy(value, 0, output, 1, value.length);
+
+        return output;
+    }
+
+    // the data key lives in memory, so every value is encrypted in software without a call into the key store
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static byte[] encryptWithKey(@NonNull final SecretKey key, @NonNull final byte[] plainText) throws GeneralSecurityException {
+        final byte[] iv = new byte[IV_LENGTH];
+        sRandom.nextBytes(iv);
+
+        final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+
+        final byte[] cipherText = cipher.doFinal(plainText);
+        final byte[] output = Arrays.copyOf(iv, IV_LENGTH + cipherText.length);
+        System.arraycopy(cipherText, 0, output, IV_LENGTH, cipherText.length);
+
+        return output;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static byte[] decryptWithKey(@NonNull final SecretKey key, @NonNull final byte[] input) throws GeneralSecurityException {
+        if (input.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("Invalid cipher text");
+        }
+
+        final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, input, 0, IV_LENGTH));
+
+        return cipher.doFinal(input, IV_LENGTH, input.length - IV_LENGTH);
+    }
+
+    //endregion
+
+    //region - Private Key
+
+    private static SecretKey getKey(@NonNull final Context context) throws GeneralSecurityException {
+        if (sKey == null) {
+            synchronized (CryptoHelper.class) {
+                if (sKey == null) {
+                    sKey = loadOrCreateKey(context);
+                }
+            }
+        }
+
+        return sKey;
+    }
+
+    // the random data key is only stored wrapped by the key store, it is unwrapped once per process
+    private static SecretKey loadOrCreateKey(@NonNull final Context context) throws GeneralSecurityException {
+        final KeyStore keyStore = KeyStore.getInstance(KEY_STORE);
+
+        try {
+            keyStore.load(null);
+        } catch (IOException exception) {
+            throw new GeneralSecurityException(exception);
+        }
+
+        final SharedPreferences preferences = context.getSharedPreferences(KEY_DB_NAME, Context.MODE_PRIVATE);
+        final String wrappedKeyStr = preferences.getString(DATA_KEY_KEY, null);
+        final KeyStore.Entry entry = keyStore.getEntry(WRAPPING_KEY_ALIAS, null);
+
+        // a failure to unwrap throws and is retried on the next call, only a missing key store entry replaces the key
+        if (wrappedKeyStr != null && entry instanceof KeyStore.PrivateKeyEntry) {
+            final Cipher cipher = Cipher.getInstance(WRAPPING_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, ((KeyStore.PrivateKeyEntry) entry).getPrivateKey());
+
+            try {
+                return new SecretKeySpec(cipher.doFinal(Base64.decode(wrappedKeyStr, Base64.NO_WRAP)), KEY_ALGORITHM);
+            } catch (IllegalArgumentException exception) {
+                throw new GeneralSecurityException(exception);
+            }
+        }
+
+        keyStore.deleteEntry(WRAPPING_KEY_ALIAS);
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(WRAPPING_KEY_ALGORITHM, KEY_STORE);
+        generator.initialize(getWrappingKeySpec(context));
+
+        final byte[] keyBytes = new byte[KEY_LENGTH];
+        sRandom.nextBytes(keyBytes);
+
+        final Cipher cipher = Cipher.getInstance(WRAPPING_TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, generator.generateKeyPair().getPublic());
+
+        // IMPORTANT - the wrapped key is on disk before anything is encrypted with it
+        if (!preferences.edit().putString(DATA_KEY_KEY, Base64.encodeToString(cipher.doFinal(keyBytes), Base64.NO_WRAP)).commit()) {
+            throw new GeneralSecurityException("Could not save the key");
+        }
+
+        return new SecretKeySpec(keyBytes, KEY_ALGORITHM);
+    }
+
+    @SuppressWarnings("deprecation")
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static AlgorithmParameterSpec getWrappingKeySpec(@NonNull final Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return new KeyGenParameterSpec.Builder(WRAPPING_KEY_ALIAS, KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                    .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_RSA_PKCS1)
+                    .build();
+        }
+
+        final Calendar start = Calendar.getInstance();
+        final Calendar end = Calendar.getInstance();
+        end.add(Calendar.YEAR, WRAPPING_KEY_YEARS);
+
+        return new KeyPairGeneratorSpec.Builder(context)
+                .setAlias(WRAPPING_KEY_ALIAS)
+                .setSubject(new X500Principal("CN=" + WRAPPING_KEY_ALIAS))
+                .setSerialNumber(BigInteger.ONE)
+                .setStartDate(start.getTime())
+                .setEndDate(end.getTime())
+                .build();
+    }
+
+    //endregion
+
+}
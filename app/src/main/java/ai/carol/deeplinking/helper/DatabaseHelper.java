@@ -2,29 +2,126 @@ package ai.carol.deeplinking.helper;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ai.carol.deeplinking.BuildConfig;
 import ai.carol.deeplinking.R;
+import ai.carol.deeplinking.model.ClockInDataObject;
+import ai.carol.deeplinking.model.ClockInObject;
+import ai.carol.deeplinking.model.ClockInSummaryObject;
+import ai.carol.deeplinking.model.ProfileObject;
 
 public final class DatabaseHelper {
 
+    private static final String TAG = "DatabaseHelper";
+
     private static final String DB_NAME = "ai.carol.deeplinking.database";
+    private static final String PROFILE_DB_NAME_PREFIX = "ai.carol.deeplinking.database.profile.";
+
+    private static final String DEFAULT_PROFILE_ID = "default";
+    private static final String CHARSET = "UTF-8";
+
+    private static final int SEGMENT_SIZE = 500;
 
     private static final String APP_IDENTIFIER_KEY = "v1.appIdentifier";
     private static final String APP_NAME_KEY = "v1.appName";
     private static final String APP_SCHEME_KEY = "v1.appScheme";
-    private static final String CLOCKINS_KEY = "v1.clockins";
+    private static final String LEGACY_CLOCKINS_KEY = "v1.clockins";
+    private static final String CLOCKINS_COUNT_KEY = "v2.clockinsCount";
+    private static final String CLOCKINS_SUMMARY_KEY = "v2.clockinsSummary";
     private static final String EMAIL_KEY = "v1.email";
-    private static final String PASSWORD_KEY = "v1.password";
+    private static final String LEGACY_PASSWORD_KEY = "v1.password";
+    private static final String PASSWORD_KEY = "v2.password";
     private static final String ORGANIZATION_KEY = "v1.organization";
     private static final String ENVIRONMENT_KEY = "v1.environment";
+    private static final String PROFILES_KEY = "v2.profiles";
+    private static final String ACTIVE_PROFILE_KEY = "v2.activeProfile";
+    private static final String LEGACY_PROFILE_KEY = "v2.legacyProfile";
+    private static final String PLAIN_VALUES_ENCRYPTED_KEY = "v2.plainValuesEncrypted";
+
+    private static final Object sProfilesLock = new Object();
+    private static volatile Map<String, ProfileObject> sProfiles;
+    private static volatile String sActiveProfileId;
+
+    private static final ClockInSummaryObject EMPTY_SUMMARY = new ClockInSummaryObject();
+
+    // only taken by the writer side, reads never wait for a commit
+    private static final Object sWriteLock = new Object();
+    private static final Map<String, ClockInSummaryObject> sSummaries = new ConcurrentHashMap<>();
+    private static final AtomicInteger sSettingsVersion = new AtomicInteger(0);
 
     private DatabaseHelper() { }
 
+    // forgets the in-memory profiles and summaries, for a fresh set of preferences
+    @VisibleForTesting
+    public static void resetCache() {
+        synchronized (sProfilesLock) {
+            sProfiles = null;
+            sActiveProfileId = null;
+        }
+
+        sSummaries.clear();
+    }
+
+    public static ProfileObject saveProfile(@NonNull final Context context, @NonNull final String organization, @NonNull final String environment) {
+        final String profileId = getProfileId(organization, environment);
+
+        synchronized (sProfilesLock) {
+            final Map<String, ProfileObject> profiles = getProfiles(context);
+            ProfileObject profile = profiles.get(profileId);
+
+            if (profile == null) {
+                profile = new ProfileObject(profileId, organization, environment);
+
+                final Map<String, ProfileObject> newProfiles = new LinkedHashMap<>(profiles);
+                newProfiles.put(profileId, profile);
+                sProfiles = newProfiles;
+
+                save(context, PROFILES_KEY, ConverterHelper.getStringFromProfiles(new ArrayList<>(newProfiles.values())));
+            }
+
+            saveActiveProfile(context, profile);
+            return profile;
+        }
+    }
+    public static void saveActiveProfile(@NonNull final Context context, @NonNull final ProfileObject profile) {
+        synchronized (sProfilesLock) {
+            sActiveProfileId = profile.getId();
+            save(context, ACTIVE_PROFILE_KEY, profile.getId());
+            sSettingsVersion.incrementAndGet();
+        }
+    }
+    public static List<ProfileObject> fetchProfiles(@NonNull final Context context) {
+        return new ArrayList<>(getProfiles(context).values());
+    }
+    public static ProfileObject fetchActiveProfile(@NonNull final Context context) {
+        return getProfiles(context).get(fetchActiveProfileId(context));
+    }
+    public static String fetchActiveProfileId(@NonNull final Context context) {
+        if (sActiveProfileId == null) {
+            getProfiles(context);
+        }
+
+        return sActiveProfileId;
+    }
+
     public static void saveAppIdentifier(@NonNull final Context context, final String appIdentifier) {
         save(context, APP_IDENTIFIER_KEY, appIdentifier);
+        sSettingsVersion.incrementAndGet();
     }
     public static String fetchAppIdentifier(@NonNull final Context context) {
         return fetch(context, APP_IDENTIFIER_KEY, getAppIdentifierDefault());
@@ -32,6 +129,7 @@ public final class DatabaseHelper {
 
     public static void saveAppName(@NonNull final Context context, final String appName) {
         save(context, APP_NAME_KEY, appName);
+        sSettingsVersion.incrementAndGet();
     }
     public static String fetchAppName(@NonNull final Context context) {
         return fetch(context, APP_NAME_KEY, getAppNameDefault(context));
@@ -39,44 +137,137 @@ public final class DatabaseHelper {
 
     public static void saveAppScheme(@NonNull final Context context, final String appScheme) {
         save(context, APP_SCHEME_KEY, appScheme);
+        sSettingsVersion.incrementAndGet();
     }
     public static String fetchAppScheme(@NonNull final Context context) {
         return fetch(context, APP_SCHEME_KEY, getAppSchemeDefault(context));
     }
 
-    public static void saveClockIns(@NonNull final Context context, final String clockIns) {
-        save(context, CLOCKINS_KEY, clockIns);
+    // IMPORTANT - runs once on the writer thread before anything is saved, it moves the keys of the released v1 layout and encrypts plain values
+    @WorkerThread
+    public static boolean migrate(@NonNull final Context context) {
+        synchronized (sWriteLock) {
+            boolean hasChanged = migrateLegacyProfile(context);
+
+            for (ProfileObject profile : fetchProfiles(context)) {
+                hasChanged |= migrateLegacyClockIns(context, profile.getId());
+            }
+
+            migratePlainValues(context);
+
+            if (hasChanged) {
+                sSettingsVersion.incrementAndGet();
+            }
+
+            return hasChanged;
+        }
+    }
+
+    // the profile and the time are the ones of when the clock-ins were received, not when they are saved
+    @WorkerThread
+    public static void appendClockIns(@NonNull final Context context, @NonNull final String profileId, @NonNull final List<ClockInObject> clockIns, final long receivedAt) throws IOException {
+        synchronized (sWriteLock) {
+            saveClockIns(context, profileId, clockIns, receivedAt);
+        }
+    }
+    @WorkerThread
+    public static void clearClockIns(@NonNull final Context context, @NonNull final String profileId) {
+        synchronized (sWriteLock) {
+            getProfilePreferences(context, profileId).edit().remove(CLOCKINS_COUNT_KEY).remove(CLOCKINS_SUMMARY_KEY).remove(LEGACY_CLOCKINS_KEY).commit();
+            sSummaries.remove(profileId);
+
+            SegmentHelper.remove(context, profileId, 0);
+        }
+    }
+    // reads never wait for the writer, a summary it has not published yet shows as empty
+    public static ClockInSummaryObject fetchClockInSummary(@NonNull final Context context) {
+        return getClockInSummary(context, fetchActiveProfileId(context));
+    }
+    public static int fetchSettingsVersion() {
+        return sSettingsVersion.get();
     }
-    public static String fetchClockIns(@NonNull final Context context) {
-        return fetch(context, CLOCKINS_KEY);
+    public static int fetchClockInsCount(@NonNull final Context context) {
+        return getProfilePreferences(context, fetchActiveProfileId(context)).getInt(CLOCKINS_COUNT_KEY, 0);
+    }
+    // throws when a record can no longer be read instead of leaving it out of what the count and summary include
+    public static List<ClockInObject> fetchClockIns(@NonNull final Context context, final int from, final int to) throws GeneralSecurityException, IOException {
+        final String profileId = fetchActiveProfileId(context);
+        final int count = getProfilePreferences(context, profileId).getInt(CLOCKINS_COUNT_KEY, 0);
+        final int start = Math.max(from, 0);
+        final int end = Math.min(to, count);
+        final List<ClockInObject> clockIns = new ArrayList<>(Math.max(end - start, 0));
+
+        final int[] firstIndexes = start < end ? SegmentHelper.fetchFirstIndexes(context, profileId) : new int[0];
+
+        // only the segments holding the requested records are read and decrypted
+        for (int i = 0; i < firstIndexes.length; i++) {
+            final int segmentStart = firstIndexes[i];
+            final int segmentEnd = Math.min(i + 1 < firstIndexes.length ? firstIndexes[i + 1] : count, count);
+            if (segmentEnd <= start || segmentStart >= end) {
+                continue;
+            }
+
+            final List<ClockInObject> segment = readSegment(context, profileId, segmentStart);
+            final int segmentTo = Math.min(Math.min(end, segmentEnd) - segmentStart, segment.size());
+
+            for (int j = Math.max(start - segmentStart, 0); j < segmentTo; j++) {
+                final ClockInObject clockIn = segment.get(j);
+
+                if (clockIn != null) {
+                    clockIns.add(clockIn);
+                }
+            }
+        }
+
+        return clockIns;
     }
 
     public static void saveEmail(@NonNull final Context context, final String email) {
-        save(context, EMAIL_KEY, email);
+        saveProfileSetting(context, EMAIL_KEY, email);
     }
     public static String fetchEmail(@NonNull final Context context) {
-        return fetch(context, EMAIL_KEY);
+        return fetchProfileSetting(context, EMAIL_KEY);
     }
 
     public static void savePassword(@NonNull final Context context, final String password) {
-        save(context, PASSWORD_KEY, password);
+        saveProfileSetting(context, PASSWORD_KEY, CryptoHelper.encrypt(context, password));
+        saveProfileSetting(context, LEGACY_PASSWORD_KEY, null);
     }
     public static String fetchPassword(@NonNull final Context context) {
-        return fetch(context, PASSWORD_KEY);
-    }
+        final String legacyPassword = fetchProfileSetting(context, LEGACY_PASSWORD_KEY);
+        if (legacyPassword != null) {
+            // the plain text password stays until it could be encrypted
+            try {
+                savePassword(context, legacyPassword);
+            } catch (IllegalStateException exception) {
+                Log.w(TAG, "could not encrypt the password", exception);
+            }
 
-    public static void saveOrganization(@NonNull final Context context, final String organization) {
-        save(context, ORGANIZATION_KEY, organization);
+            return legacyPassword;
+        }
+
+        try {
+            return CryptoHelper.decrypt(context, fetchProfileSetting(context, PASSWORD_KEY));
+        } catch (GeneralSecurityException exception) {
+            Log.w(TAG, "could not decrypt the password", exception);
+
+            // only a password that fails its authentication can never be recovered, it is dropped so it has to be typed again
+            if (CryptoHelper.isAuthenticationFailure(exception)) {
+                saveProfileSetting(context, PASSWORD_KEY, null);
+            }
+
+            return null;
+        }
     }
+
     public static String fetchOrganization(@NonNull final Context context) {
-        return fetch(context, ORGANIZATION_KEY);
+        final ProfileObject profile = fetchActiveProfile(context);
+        return profile == null ? null : profile.getOrganization();
     }
 
-    public static void saveEnvironment(@NonNull final Context context, final String environment) {
-        save(context, ENVIRONMENT_KEY, environment);
-    }
     public static String fetchEnvironment(@NonNull final Context context) {
-        return fetch(context, ENVIRONMENT_KEY);
+        final ProfileObject profile = fetchActiveProfile(context);
+        return profile == null ? null : profile.getEnvironment();
     }
 
     //region - Private Helper
@@ -89,6 +280,91 @@ public final class DatabaseHelper {
         editor.apply();
     }
 
+    private static void saveClockIns(@NonNull final Context context, @NonNull final String profileId, @NonNull final List<ClockInObject> clockIns, final long receivedAt) throws IOException {
+        final SharedPreferences preferences = getProfilePreferences(context, profileId);
+        final int count = preferences.getInt(CLOCKINS_COUNT_KEY, 0);
+
+        // the summary is updated with the batch only
+        final ClockInSummaryObject summary = appendToSummary(getClockInSummary(context, profileId), clockIns, receivedAt);
+
+        // segments of a save that was interrupted were never counted
+        SegmentHelper.remove(context, profileId, count);
+
+        // the batch goes into new segments, the records saved before it are never rewritten
+        for (int from = 0; from < clockIns.size(); from += SEGMENT_SIZE) {
+            final List<ClockInObject> segment = clockIns.subList(from, Math.min(from + SEGMENT_SIZE, clockIns.size()));
+            final byte[] payload = ConverterHelper.getStringFromClockIns(segment).getBytes(CHARSET);
+
+            SegmentHelper.save(context, profileId, count + from, CryptoHelper.encrypt(context, payload));
+        }
+
+        // IMPORTANT - the segments only count once the count is committed, the summary is committed along with it
+        final boolean isCommitted = preferences.edit()
+                .putInt(CLOCKINS_COUNT_KEY, count + clockIns.size())
+                .putString(CLOCKINS_SUMMARY_KEY, ConverterHelper.getStringFromClockInSummary(summary))
+                .commit();
+
+        if (!isCommitted) {
+            throw new IOException("Could not save the clock-ins count");
+        }
+
+        sSummaries.put(profileId, summary);
+    }
+
+    private static List<ClockInObject> readSegment(@NonNull final Context context, @NonNull final String profileId, final int firstIndex) throws GeneralSecurityException, IOException {
+        final byte[] payload = CryptoHelper.decrypt(context, SegmentHelper.read(context, profileId, firstIndex));
+
+        try {
+            final List<ClockInObject> clockIns = ConverterHelper.getClockInsFromString(new String(payload, CHARSET));
+            return clockIns != null ? clockIns : new ArrayList<>();
+        } catch (RuntimeException exception) {
+            throw new IOException("Could not parse the segment " + firstIndex, exception);
+        }
+    }
+
+    private static ClockInSummaryObject getClockInSummary(@NonNull final Context context, @NonNull final String profileId) {
+        final ClockInSummaryObject summary = sSummaries.get(profileId);
+        if (summary != null) {
+            return summary;
+        }
+
+        final ClockInSummaryObject storedSummary = ConverterHelper.getClockInSummaryFromString(fetchProfileSetting(context, profileId, CLOCKINS_SUMMARY_KEY));
+        if (storedSummary == null) {
+            return EMPTY_SUMMARY;
+        }
+
+        // a summary published by the writer in the meantime is newer than the stored one
+        final ClockInSummaryObject publishedSummary = sSummaries.putIfAbsent(profileId, storedSummary);
+        return publishedSummary != null ? publishedSummary : storedSummary;
+    }
+
+    // returns a new summary, the published ones are never changed so they can be read from any thread
+    private static ClockInSummaryObject appendToSummary(@NonNull final ClockInSummaryObject summary, @NonNull final List<ClockInObject> clockIns, final long receivedAt) {
+        final Map<String, Integer> employeeCounts = new HashMap<>(summary.getEmployeeCounts());
+        final DateTimeParser parser = new DateTimeParser();
+
+        long firstClockInAt = summary.getFirstClockInAt();
+        long lastClockInAt = summary.getLastClockInAt();
+
+        for (ClockInObject clockIn : clockIns) {
+            final ClockInDataObject data = clockIn == null ? null : clockIn.getData();
+            final String employeePersonId = data == null ? null : data.getEmployeePersonId();
+
+            if (employeePersonId != null) {
+                final Integer employeeCount = employeeCounts.get(employeePersonId);
+                employeeCounts.put(employeePersonId, employeeCount == null ? 1 : employeeCount + 1);
+            }
+
+            final long clockInAt = ConverterHelper.getClockInDatetime(parser, clockIn);
+            if (clockInAt != Long.MAX_VALUE) {
+                firstClockInAt = Math.min(firstClockInAt, clockInAt);
+                lastClockInAt = Math.max(lastClockInAt, clockInAt);
+            }
+        }
+
+        return new ClockInSummaryObject(summary.getCount() + clockIns.size(), employeeCounts, firstClockInAt, lastClockInAt, Math.max(summary.getLastReceivedAt(), receivedAt));
+    }
+
     private static String fetch(@NonNull final Context context, @NonNull final String key) {
         return fetch(context, key, null);
     }
@@ -102,6 +378,188 @@ public final class DatabaseHelper {
         return context.getSharedPreferences(DB_NAME, Context.MODE_PRIVATE);
     }
 
+    private static void saveProfileSetting(@NonNull final Context context, @NonNull final String key, final String value) {
+        saveProfileSetting(context, fetchActiveProfileId(context), key, value);
+    }
+
+    private static void saveProfileSetting(@NonNull final Context context, @NonNull final String profileId, @NonNull final String key, final String value) {
+        final SharedPreferences preferences = getProfilePreferences(context, profileId);
+        SharedPreferences.Editor editor = preferences.edit();
+
+        editor.putString(key, value);
+        editor.apply();
+
+        sSettingsVersion.incrementAndGet();
+    }
+
+    private static String fetchProfileSetting(@NonNull final Context context, @NonNull final String key) {
+        return fetchProfileSetting(context, fetchActiveProfileId(context), key);
+    }
+
+    private static String fetchProfileSetting(@NonNull final Context context, @NonNull final String profileId, @NonNull final String key) {
+        final SharedPreferences preferences = getProfilePreferences(context, profileId);
+        return preferences.getString(key, null);
+    }
+
+    private static SharedPreferences getProfilePreferences(@NonNull final Context context, @NonNull final String profileId) {
+        return context.getSharedPreferences(PROFILE_DB_NAME_PREFIX + profileId, Context.MODE_PRIVATE);
+    }
+
+    //endregion
+
+    //region - Private Profile
+
+    // the id names the profile files, so it is a fixed length hash of the tuple
+    private static String getProfileId(@NonNull final String organization, @NonNull final String environment) {
+        return CryptoHelper.hash(organization + "\n" + environment);
+    }
+
+    private static Map<String, ProfileObject> getProfiles(@NonNull final Context context) {
+        if (sProfiles == null) {
+            synchronized (sProfilesLock) {
+                if (sProfiles == null) {
+                    loadProfiles(context);
+                }
+            }
+        }
+
+        return sProfiles;
+    }
+
+    private static void loadProfiles(@NonNull final Context context) {
+        final String profilesStr = fetch(context, PROFILES_KEY);
+
+        if (profilesStr == null) {
+            registerLegacyProfile(context);
+            return;
+        }
+
+        final Map<String, ProfileObject> profiles = new LinkedHashMap<>();
+        final List<ProfileObject> storedProfiles = ConverterHelper.getProfilesFromString(profilesStr);
+
+        if (storedProfiles != null) {
+            for (ProfileObject profile : storedProfiles) {
+                profiles.put(profile.getId(), profile);
+            }
+        }
+
+        sActiveProfileId = fetch(context, ACTIVE_PROFILE_KEY, DEFAULT_PROFILE_ID);
+        sProfiles = profiles;
+    }
+
+    //endregion
+
+    //region - Private Migration
+
+    // only indexes the organization/environment tuple of the previous versions, its data is moved by the writer
+    private static void registerLegacyProfile(@NonNull final Context context) {
+        final Map<String, ProfileObject> profiles = new LinkedHashMap<>();
+        final String organization = fetch(context, ORGANIZATION_KEY);
+        final String environment = fetch(context, ENVIRONMENT_KEY);
+
+        // without both fields the data goes into a registered default profile, so it can be switched back to
+        String profileId = DEFAULT_PROFILE_ID;
+        ProfileObject profile = new ProfileObject(DEFAULT_PROFILE_ID, "", "");
+
+        if (organization != null && !organization.isEmpty() && environment != null && !environment.isEmpty()) {
+            profileId = getProfileId(organization, environment);
+            profile = new ProfileObject(profileId, organization, environment);
+        }
+
+        profiles.put(profileId, profile);
+
+        final SharedPreferences.Editor editor = getPreferences(context).edit();
+        editor.putString(PROFILES_KEY, ConverterHelper.getStringFromProfiles(new ArrayList<>(profiles.values())));
+        editor.putString(ACTIVE_PROFILE_KEY, profileId);
+        editor.putString(LEGACY_PROFILE_KEY, profileId);
+        editor.apply();
+
+        sActiveProfileId = profileId;
+        sProfiles = profiles;
+    }
+
+    // moves the settings and clock-ins of the previous versions into the shard registered for them
+    private static boolean migrateLegacyProfile(@NonNull final Context context) {
+        final SharedPreferences preferences = getPreferences(context);
+        final String profileId = preferences.getString(LEGACY_PROFILE_KEY, null);
+        if (profileId == null) {
+            return false;
+        }
+
+        final SharedPreferences profilePreferences = getProfilePreferences(context, profileId);
+        final SharedPreferences.Editor profileEditor = profilePreferences.edit();
+
+        // settings saved since the profile was registered are newer than the legacy ones
+        for (String key : new String[] { EMAIL_KEY, LEGACY_PASSWORD_KEY, LEGACY_CLOCKINS_KEY }) {
+            if (!profilePreferences.contains(key)) {
+                profileEditor.putString(key, preferences.getString(key, null));
+            }
+        }
+        profileEditor.commit();
+
+        final SharedPreferences.Editor editor = preferences.edit();
+        for (String key : new String[] { ORGANIZATION_KEY, ENVIRONMENT_KEY, EMAIL_KEY, LEGACY_PASSWORD_KEY, LEGACY_CLOCKINS_KEY, LEGACY_PROFILE_KEY }) {
+            editor.remove(key);
+        }
+        editor.commit();
+
+        return true;
+    }
+
+    private static boolean migrateLegacyClockIns(@NonNull final Context context, @NonNull final String profileId) {
+        final String legacyClockInsStr = fetchProfileSetting(context, profileId, LEGACY_CLOCKINS_KEY);
+        if (legacyClockInsStr == null) {
+            return false;
+        }
+
+        final List<ClockInObject> legacyClockIns = ConverterHelper.getClockInsFromString(legacyClockInsStr);
+        if (legacyClockIns != null && !legacyClockIns.isEmpty()) {
+            // the legacy records stay where they are until they could be saved
+            try {
+                saveClockIns(context, profileId, legacyClockIns, Long.MIN_VALUE);
+            } catch (IOException | IllegalStateException exception) {
+                Log.w(TAG, "could not migrate the clock-ins", exception);
+                return false;
+            }
+        }
+
+        saveProfileSetting(context, profileId, LEGACY_CLOCKINS_KEY, null);
+        return true;
+    }
+
+    // values saved as plain text before the key store could wrap the key are encrypted once it can
+    private static void migratePlainValues(@NonNull final Context context) {
+        final SharedPreferences preferences = getPreferences(context);
+        if (!CryptoHelper.isSupported() || preferences.getBoolean(PLAIN_VALUES_ENCRYPTED_KEY, false)) {
+            return;
+        }
+
+        try {
+            for (ProfileObject profile : fetchProfiles(context)) {
+                final String profileId = profile.getId();
+                final String password = fetchProfileSetting(context, profileId, PASSWORD_KEY);
+
+                if (CryptoHelper.isPlain(password)) {
+                    saveProfileSetting(context, profileId, PASSWORD_KEY, CryptoHelper.encrypt(context, CryptoHelper.decrypt(context, password)));
+                }
+
+                for (int firstIndex : SegmentHelper.fetchFirstIndexes(context, profileId)) {
+                    final byte[] segment = SegmentHelper.read(context, profileId, firstIndex);
+
+                    if (CryptoHelper.isPlain(segment)) {
+                        SegmentHelper.save(context, profileId, firstIndex, CryptoHelper.encrypt(context, CryptoHelper.decrypt(context, segment)));
+                    }
+                }
+            }
+        } catch (GeneralSecurityException | IOException | IllegalStateException exception) {
+            // the flag stays unset, so what is left is tried again on the next start
+            Log.w(TAG, "could not encrypt the plain values", exception);
+            return;
+        }
+
+        preferences.edit().putBoolean(PLAIN_VALUES_ENCRYPTED_KEY, true).commit();
+    }
+
     //endregion
 
     //region - Private Default
@@ -0,0 +1,314 @@
+package ai.carol.deeplinking.helper;
+
+import androidx.annotation.NonNull;
+
+import java.util.TimeZone;
+
+public final class DateTimeParser {
+
+    public static final long INVALID_TIME = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60L * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60L * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24L * MILLIS_PER_HOUR;
+
+    private static final int DATE_LENGTH = 10;
+    private static final int CACHE_SIZE = 8;
+
+    // IMPORTANT - shorter numbers such as "20190101" are compact dates, not epoch millis before 1973
+    private static final int MIN_EPOCH_DIGITS = 12;
+    private static final int MAX_EPOCH_DIGITS = 18;
+
+    private final TimeZone mDefaultZone;
+
+    private final char[][] mCachedDates = new char[CACHE_SIZE][DATE_LENGTH];
+    private final long[] mCachedEpochDays = new long[CACHE_SIZE];
+    private int mCachedCount;
+    private int mCacheCursor;
+
+    private int mOffsetMillis;
+    private boolean mHasOffset;
+
+    public DateTimeParser() {
+        this(TimeZone.getDefault());
+    }
+
+    // the zone is used for the texts that carry no offset of their own
+    public DateTimeParser(@NonNull final TimeZone defaultZone) {
+        mDefaultZone = defaultZone;
+    }
+
+    //region - Public
+
+    // Accepts "yyyy-MM-dd[T| ]HH:mm[:ss[.SSS]][Z|+HH[:mm]|-HH[:mm]]" or an epoch millis number of 12 to 18 digits.
+    // Returns INVALID_TIME when the text does not match; the zone offset used is kept until the next call.
+    public long parseEpochMillis(final CharSequence text) {
+        mOffsetMillis = 0;
+        mHasOffset = false;
+
+        if (text == null) {
+            return INVALID_TIME;
+        }
+
+        final int length = text.length();
+        if (length >= MIN_EPOCH_DIGITS && length <= MAX_EPOCH_DIGITS && isDigits(text, 0, length)) {
+            return parseNumber(text, 0, length);
+        }
+
+        if (length < DATE_LENGTH + 6) {
+            return INVALID_TIME;
+        }
+
+        final long epochDay = parseEpochDay(text);
+        if (epochDay == INVALID_TIME) {
+            return INVALID_TIME;
+        }
+
+        final char separator = text.charAt(DATE_LENGTH);
+        if (separator != 'T' && separator != ' ') {
+            return INVALID_TIME;
+        }
+
+        int index = DATE_LENGTH + 1;
+
+        final int hour = parseTwoDigits(text, index);
+        if (hour < 0 || hour > 23 || text.charAt(index + 2) != ':') {
+            return INVALID_TIME;
+        }
+        index += 3;
+
+        final int minute = parseTwoDigits(text, index);
+        if (minute < 0 || minute > 59) {
+            return INVALID_TIME;
+        }
+        index += 2;
+
+        int second = 0;
+        if (index < length && text.charAt(index) == ':') {
+            second = parseTwoDigits(text, index + 1);
+            if (second < 0 || second > 60) {
+                return INVALID_TIME;
+            }
+            index += 3;
+        }
+
+        int millis = 0;
+        if (index < length && (text.charAt(index) == '.' || text.charAt(index) == ',')) {
+            index++;
+
+            int digits = 0;
+            while (index < length && isDigit(text.charAt(index))) {
+                if (digits < 3) {
+                    millis = millis * 10 + (text.charAt(index) - '0');
+                }
+                digits++;
+                index++;
+            }
+
+            if (digits == 0) {
+                return INVALID_TIME;
+            }
+            for (; digits < 3; digits++) {
+                millis *= 10;
+            }
+        }
+
+        if (index < length && !parseOffset(text, index, length)) {
+            return INVALID_TIME;
+        }
+
+        final long localMillis = epochDay * MILLIS_PER_DAY
+                + hour * MILLIS_PER_HOUR
+                + minute * MILLIS_PER_MINUTE
+                + second * MILLIS_PER_SECOND
+                + millis;
+
+        if (!mHasOffset) {
+            mOffsetMillis = getDefaultOffsetMillis(localMillis);
+        }
+
+        return localMillis - mOffsetMillis;
+    }
+
+    public int getOffsetMillis() {
+        return mOffsetMillis;
+    }
+
+    //endregion
+
+    //region - Private Date
+
+    private long parseEpochDay(@NonNull final CharSequence text) {
+        for (int i = 0; i < mCachedCount; i++) {
+            if (isSameDate(mCachedDates[i], text)) {
+                return mCachedEpochDays[i];
+            }
+        }
+
+        if (text.charAt(4) != '-' || text.charAt(7) != '-' || !isDigits(text, 0, 4)) {
+            return INVALID_TIME;
+        }
+
+        final int year = (int) parseNumber(text, 0, 4);
+        final int month = parseTwoDigits(text, 5);
+        final int day = parseTwoDigits(text, 8);
+
+        if (month < 1 || month > 12 || day < 1 || day > getDaysInMonth(year, month)) {
+            return INVALID_TIME;
+        }
+
+        final long epochDay = getEpochDay(year, month, day);
+        cacheDate(text, epochDay);
+
+        return epochDay;
+    }
+
+    private void cacheDate(@NonNull final CharSequence text, final long epochDay) {
+        final char[] cachedDate = mCachedDates[mCacheCursor];
+
+        for (int i = 0; i < DATE_LENGTH; i++) {
+            cachedDate[i] = text.charAt(i);
+        }
+        mCachedEpochDays[mCacheCursor] = epochDay;
+
+        mCacheCursor = (mCacheCursor + 1) % CACHE_SIZE;
+        mCachedCount = Math.min(mCachedCount + 1, CACHE_SIZE);
+    }
+
+    private static boolean isSameDate(@NonNull final char[] cachedDate, @NonNull final CharSequence text) {
+        for (int i = DATE_LENGTH - 1; i >= 0; i--) {
+            if (cachedDate[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // days from 1970-01-01 in the proleptic gregorian calendar
+    private static long getEpochDay(final int year, final int month, final int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097L + dayOfEra - 719468L;
+    }
+
+    private static int getDaysInMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                final boolean isLeap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return isLeap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    //endregion
+
+    //region - Private Offset
+
+    // the zone offset depends on the instant being parsed, a second lookup settles the local times next to a transition
+    private int getDefaultOffsetMillis(final long localMillis) {
+        final int offsetMillis = mDefaultZone.getOffset(localMillis - mDefaultZone.getRawOffset());
+        return mDefaultZone.getOffset(localMillis - offsetMillis);
+    }
+
+    private boolean parseOffset(@NonNull final CharSequence text, final int index, final int length) {
+        final char sign = text.charAt(index);
+
+        if (sign == 'Z' || sign == 'z') {
+            mOffsetMillis = 0;
+            mHasOffset = true;
+            return index + 1 == length;
+        }
+
+        if (sign != '+' && sign != '-') {
+            return false;
+        }
+
+        final int hours = parseTwoDigits(text, index + 1);
+        if (hours < 0 || hours > 18) {
+            return false;
+        }
+
+        int minutes = 0;
+        int end = index + 3;
+
+        if (end < length) {
+            if (text.charAt(end) == ':') {
+                end++;
+            }
+
+            minutes = parseTwoDigits(text, end);
+            if (minutes < 0 || minutes > 59) {
+                return false;
+            }
+            end += 2;
+        }
+
+        if (end != length) {
+            return false;
+        }
+
+        final int offsetMillis = (int) (hours * MILLIS_PER_HOUR + minutes * MILLIS_PER_MINUTE);
+        mOffsetMillis = sign == '-' ? -offsetMillis : offsetMillis;
+        mHasOffset = true;
+
+        return true;
+    }
+
+    //endregion
+
+    //region - Private Digits
+
+    private static int parseTwoDigits(@NonNull final CharSequence text, final int index) {
+        if (index + 2 > text.length()) {
+            return -1;
+        }
+
+        final char first = text.charAt(index);
+        final char second = text.charAt(index + 1);
+
+        if (!isDigit(first) || !isDigit(second)) {
+            return -1;
+        }
+
+        return (first - '0') * 10 + (second - '0');
+    }
+
+    private static long parseNumber(@NonNull final CharSequence text, final int start, final int end) {
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+
+        return value;
+    }
+
+    private static boolean isDigits(@NonNull final CharSequence text, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,215 @@
+package ai.carol.deeplinking.helper;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public final class JournalHelper {
+
+    private static final String JOURNAL_DIR = "intake";
+    private static final String QUARANTINE_DIR = "failed";
+    private static final String JOURNAL_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char NAME_SEPARATOR = '.';
+    private static final String CHARSET = "UTF-8";
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int QUARANTINE_LIMIT = 10;
+    private static final long QUARANTINE_MAX_LENGTH = 1024 * 1024;
+
+    private JournalHelper() { }
+
+    //region - Public
+
+    public static File save(@NonNull final Context context, final long sequence, @NonNull final String profileId, @NonNull final InputStream payload) throws IOException {
+        final File tempFile = getTempFile(context, sequence, profileId);
+        final FileOutputStream output = new FileOutputStream(tempFile);
+
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while ((read = payload.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+
+            output.flush();
+            output.getFD().sync();
+        } finally {
+            closeQuietly(output);
+            closeQuietly(payload);
+        }
+
+        return commit(context, sequence, profileId, tempFile);
+    }
+
+    public static File save(@NonNull final Context context, final long sequence, @NonNull final String profileId, @NonNull final String payload) throws IOException {
+        final File tempFile = getTempFile(context, sequence, profileId);
+        final FileOutputStream output = new FileOutputStream(tempFile);
+        final Writer writer = new OutputStreamWriter(output, CHARSET);
+
+        try {
+            writer.write(payload);
+            writer.flush();
+            output.getFD().sync();
+        } finally {
+            closeQuietly(writer);
+        }
+
+        return commit(context, sequence, profileId, tempFile);
+    }
+
+    public static List<File> fetchPending(@NonNull final Context context) {
+        final File[] files = getJournalDir(context).listFiles((dir, name) -> name.endsWith(JOURNAL_SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        // the zero padded names sort in arrival order
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    public static long getSequence(@NonNull final File journal) {
+        final String name = journal.getName();
+
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf(NAME_SEPARATOR)));
+        } catch (IndexOutOfBoundsException | NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    // the profile active when the payload was received is kept in the name, it is never a path or contains a dot
+    public static String getProfileId(@NonNull final File journal) {
+        final String name = journal.getName();
+        final int start = name.indexOf(NAME_SEPARATOR) + 1;
+        final int end = name.length() - JOURNAL_SUFFIX.length();
+
+        return start > 0 && start < end ? name.substring(start, end) : null;
+    }
+
+    public static Reader open(@NonNull final File journal) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(journal), CHARSET));
+    }
+
+    public static void remove(@NonNull final File journal) {
+        //noinspection ResultOfMethodCallIgnored
+        journal.delete();
+    }
+
+    public static byte[] read(@NonNull final File file) throws IOException {
+        final byte[] payload = new byte[(int) file.length()];
+        final FileInputStream input = new FileInputStream(file);
+
+        try {
+            int offset = 0;
+            int read;
+
+            while (offset < payload.length && (read = input.read(payload, offset, payload.length - offset)) != -1) {
+                offset += read;
+            }
+
+            if (offset < payload.length) {
+                throw new IOException("Could not read " + file);
+            }
+        } finally {
+            closeQuietly(input);
+        }
+
+        return payload;
+    }
+
+    // only the latest few payloads that could not be read are kept, encrypted, the journal itself is always dropped
+    public static void quarantine(@NonNull final Context context, @NonNull final File journal) {
+        final File quarantineDir = new File(getJournalDir(context), QUARANTINE_DIR);
+
+        try {
+            if (journal.length() <= QUARANTINE_MAX_LENGTH && (quarantineDir.isDirectory() || quarantineDir.mkdirs())) {
+                final byte[] payload = CryptoHelper.encrypt(context, read(journal));
+                final FileOutputStream output = new FileOutputStream(new File(quarantineDir, journal.getName()));
+
+                try {
+                    output.write(payload);
+                } finally {
+                    closeQuietly(output);
+                }
+            }
+        } catch (IOException | IllegalStateException ignored) {
+        } finally {
+            remove(journal);
+        }
+
+        final File[] files = quarantineDir.listFiles();
+        if (files == null || files.length <= QUARANTINE_LIMIT) {
+            return;
+        }
+
+        // the zero padded names sort in arrival order, the oldest ones go first
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - QUARANTINE_LIMIT; i++) {
+            remove(files[i]);
+        }
+    }
+
+    public static void closeQuietly(final java.io.Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+
+        try {
+            closeable.close();
+        } catch (IOException ignored) { }
+    }
+
+    //endregion
+
+    //region - Private
+
+    private static File commit(@NonNull final Context context, final long sequence, @NonNull final String profileId, @NonNull final File tempFile) throws IOException {
+        final File journal = new File(getJournalDir(context), getName(sequence, profileId) + JOURNAL_SUFFIX);
+
+        if (!tempFile.renameTo(journal)) {
+            remove(tempFile);
+            throw new IOException("Could not commit " + journal);
+        }
+
+        return journal;
+    }
+
+    private static File getTempFile(@NonNull final Context context, final long sequence, @NonNull final String profileId) throws IOException {
+        final File journalDir = getJournalDir(context);
+
+        if (!journalDir.isDirectory() && !journalDir.mkdirs()) {
+            throw new IOException("Could not create " + journalDir);
+        }
+
+        return new File(journalDir, getName(sequence, profileId) + TEMP_SUFFIX);
+    }
+
+    private static File getJournalDir(@NonNull final Context context) {
+        return new File(context.getFilesDir(), JOURNAL_DIR);
+    }
+
+    private static String getName(final long sequence, @NonNull final String profileId) {
+        return String.format(Locale.US, "%019d", sequence) + NAME_SEPARATOR + profileId;
+    }
+
+    //endregion
+
+}
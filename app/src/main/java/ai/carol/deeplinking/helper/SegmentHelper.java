@@ -0,0 +1,116 @@
+package ai.carol.deeplinking.helper;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+public final class SegmentHelper {
+
+    private static final String SEGMENT_DIR = "clockins";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private SegmentHelper() { }
+
+    //region - Public
+
+    // a segment is written once under the index of its first record and replaced as a whole
+    public static void save(@NonNull final Context context, @NonNull final String profileId, final int firstIndex, @NonNull final byte[] payload) throws IOException {
+        final File segmentDir = getSegmentDir(context, profileId);
+
+        if (!segmentDir.isDirectory() && !segmentDir.mkdirs()) {
+            throw new IOException("Could not create " + segmentDir);
+        }
+
+        final File tempFile = new File(segmentDir, getName(firstIndex) + TEMP_SUFFIX);
+        final FileOutputStream output = new FileOutputStream(tempFile);
+
+        try {
+            output.write(payload);
+            output.flush();
+            output.getFD().sync();
+        } finally {
+            JournalHelper.closeQuietly(output);
+        }
+
+        final File segment = new File(segmentDir, getName(firstIndex) + SEGMENT_SUFFIX);
+        if (!tempFile.renameTo(segment)) {
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+            throw new IOException("Could not commit " + segment);
+        }
+    }
+
+    // the first record index of every segment, in order
+    public static int[] fetchFirstIndexes(@NonNull final Context context, @NonNull final String profileId) {
+        final String[] names = getSegmentDir(context, profileId).list((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (names == null) {
+            return new int[0];
+        }
+
+        final int[] firstIndexes = new int[names.length];
+        int length = 0;
+
+        for (String name : names) {
+            try {
+                firstIndexes[length] = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                length++;
+            } catch (NumberFormatException ignored) { }
+        }
+
+        final int[] sortedIndexes = Arrays.copyOf(firstIndexes, length);
+        Arrays.sort(sortedIndexes);
+        return sortedIndexes;
+    }
+
+    public static byte[] read(@NonNull final Context context, @NonNull final String profileId, final int firstIndex) throws IOException {
+        final File segment = new File(getSegmentDir(context, profileId), getName(firstIndex) + SEGMENT_SUFFIX);
+        return JournalHelper.read(segment);
+    }
+
+    // drops the segments from the given record index on, along with any temporary file left behind
+    public static void remove(@NonNull final Context context, @NonNull final String profileId, final int fromIndex) {
+        final File[] files = getSegmentDir(context, profileId).listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            final String name = file.getName();
+            final int end = name.lastIndexOf('.');
+            int firstIndex;
+
+            try {
+                firstIndex = Integer.parseInt(name.substring(0, Math.max(end, 0)));
+            } catch (NumberFormatException exception) {
+                firstIndex = Integer.MAX_VALUE;
+            }
+
+            if (firstIndex >= fromIndex || name.endsWith(TEMP_SUFFIX)) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    //endregion
+
+    //region - Private
+
+    private static File getSegmentDir(@NonNull final Context context, @NonNull final String profileId) {
+        return new File(new File(context.getFilesDir(), SEGMENT_DIR), profileId);
+    }
+
+    private static String getName(final int firstIndex) {
+        return String.format(Locale.US, "%010d", firstIndex);
+    }
+
+    //endregion
+
+}
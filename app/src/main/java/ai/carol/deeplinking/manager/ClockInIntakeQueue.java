@@ -0,0 +1,328 @@
+package ai.carol.deeplinking.manager;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ai.carol.deeplinking.helper.ConverterHelper;
+import ai.carol.deeplinking.helper.DatabaseHelper;
+import ai.carol.deeplinking.helper.JournalHelper;
+import ai.carol.deeplinking.model.ClockInObject;
+
+public final class ClockInIntakeQueue {
+
+    private static final String TAG = "ClockInIntakeQueue";
+
+    private static volatile ClockInIntakeQueue sInstance;
+
+    private final Context mContext;
+    private final ClockInManager mManager;
+    private final ConcurrentLinkedQueue<Entry> mQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mIsDrainScheduled = new AtomicBoolean(false);
+    private final ExecutorService mJournaler = Executors.newSingleThreadExecutor();
+    private final ExecutorService mWriter = Executors.newSingleThreadExecutor();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> mListeners = new ArrayList<>();
+    private final AtomicInteger mRejectedCount = new AtomicInteger(0);
+
+    // only touched by the journal thread
+    private long mSequence;
+
+    // only touched by the writer thread
+    private boolean mIsSaveDeferred;
+
+    private ClockInIntakeQueue(@NonNull final Context context) {
+        mContext = context;
+        mManager = new ClockInManager(context);
+
+        // IMPORTANT - the journals left behind are listed before anything new is journaled, and replayed ahead of it
+        mJournaler.execute(this::loadPending);
+    }
+
+    public static ClockInIntakeQueue getInstance(@NonNull final Context context) {
+        if (sInstance == null) {
+            synchronized (ClockInIntakeQueue.class) {
+                if (sInstance == null) {
+                    sInstance = new ClockInIntakeQueue(context.getApplicationContext());
+                }
+            }
+        }
+
+        return sInstance;
+    }
+
+    // drops the queue along with its threads so the next getInstance starts over, pending journal files stay
+    @VisibleForTesting
+    public static void resetInstance() {
+        synchronized (ClockInIntakeQueue.class) {
+            if (sInstance != null) {
+                sInstance.mJournaler.shutdownNow();
+                sInstance.mWriter.shutdownNow();
+                sInstance = null;
+            }
+        }
+    }
+
+    //region - Public
+
+    // the listener is called on the main thread once the payload is journaled, after that the caller may finish
+    @MainThread
+    public void enqueue(@NonNull final Uri intentData, @Nullable final Uri contentUri, @Nullable final JournalListener journalListener) {
+        mJournaler.execute(() -> journal(intentData, contentUri, journalListener));
+    }
+
+    // goes through the journal thread as well, so it keeps its place among the payloads
+    @MainThread
+    public void enqueueReset() {
+        final String profileId = DatabaseHelper.fetchActiveProfileId(mContext);
+        mJournaler.execute(() -> offer(new Entry(profileId, ++mSequence, null)));
+    }
+
+    // the payloads that could not be read since the last call, the listeners are called when one is set aside
+    @MainThread
+    public int takeRejectedCount() {
+        return mRejectedCount.getAndSet(0);
+    }
+
+    @MainThread
+    public void addListener(@NonNull final Listener listener) {
+        mListeners.add(listener);
+    }
+
+    @MainThread
+    public void removeListener(@NonNull final Listener listener) {
+        mListeners.remove(listener);
+    }
+
+    //endregion
+
+    //region - Private Journal
+
+    @WorkerThread
+    private void loadPending() {
+        final List<File> pending = JournalHelper.fetchPending(mContext);
+
+        for (File journal : pending) {
+            mSequence = Math.max(mSequence, JournalHelper.getSequence(journal));
+        }
+
+        mWriter.execute(() -> replayPending(pending));
+    }
+
+    // IMPORTANT - everything that may block runs here, the calls into the sender's provider included, never on the main thread
+    @WorkerThread
+    private void journal(@NonNull final Uri intentData, @Nullable final Uri contentUri, @Nullable final JournalListener journalListener) {
+        final long sequence = ++mSequence;
+        File journal = null;
+
+        try {
+            final String profileId = DatabaseHelper.fetchActiveProfileId(mContext);
+            final ParcelFileDescriptor descriptor = mManager.openClockInsDescriptor(contentUri);
+
+            if (descriptor != null) {
+                try {
+                    journal = JournalHelper.save(mContext, sequence, profileId, new ParcelFileDescriptor.AutoCloseInputStream(descriptor));
+                } catch (IOException exception) {
+                    Log.w(TAG, "could not journal the shared clock-ins", exception);
+                }
+            }
+
+            // the payload may be handed off as a content:// uri, falling back to the inline parameter
+            final String data = journal == null ? mManager.getClockInsData(intentData) : null;
+            if (data != null) {
+                try {
+                    journal = JournalHelper.save(mContext, sequence, profileId, data);
+                } catch (IOException exception) {
+                    Log.w(TAG, "could not journal the clock-ins", exception);
+                }
+            }
+        } finally {
+            if (journalListener != null) {
+                mMainHandler.post(journalListener::onJournaled);
+            }
+        }
+
+        // the callback arrived, whatever it carried the login request is answered
+        ClockInManager.completeRequest();
+
+        if (journal != null) {
+            offer(new Entry(null, sequence, journal));
+        }
+    }
+
+    private void offer(@NonNull final Entry entry) {
+        mQueue.offer(entry);
+
+        if (mIsDrainScheduled.compareAndSet(false, true)) {
+            mWriter.execute(this::drain);
+        }
+    }
+
+    //endregion
+
+    //region - Private Writer
+
+    @WorkerThread
+    private void replayPending(@NonNull final List<File> pending) {
+        boolean hasChanged = DatabaseHelper.migrate(mContext);
+
+        for (File journal : pending) {
+            hasChanged |= ingest(journal);
+        }
+
+        if (hasChanged) {
+            mMainHandler.post(this::notifyListeners);
+        }
+    }
+
+    @WorkerThread
+    private void drain() {
+        mIsDrainScheduled.set(false);
+
+        boolean hasChanged = false;
+        Entry entry;
+        while ((entry = mQueue.poll()) != null) {
+            if (entry.journal != null) {
+                hasChanged |= ingest(entry.journal);
+                continue;
+            }
+
+            DatabaseHelper.clearClockIns(mContext, entry.profileId);
+            hasChanged = true;
+
+            // the journals waiting for the next start were received before the reset
+            if (mIsSaveDeferred) {
+                removePending(entry.profileId, entry.sequence);
+            }
+        }
+
+        if (hasChanged) {
+            mMainHandler.post(this::notifyListeners);
+        }
+    }
+
+    // IMPORTANT - the journal is only dropped after the payload was saved or found unreadable
+    @WorkerThread
+    private boolean ingest(@NonNull final File journal) {
+        final String profileId = JournalHelper.getProfileId(journal);
+        final List<ClockInObject> clockIns;
+
+        // once a save failed everything after it waits for the next start too, so the order is kept
+        if (mIsSaveDeferred) {
+            return false;
+        }
+
+        if (profileId == null) {
+            return reject(journal);
+        }
+
+        Reader reader = null;
+        try {
+            reader = JournalHelper.open(journal);
+            clockIns = ConverterHelper.getClockInsFromReader(reader);
+        } catch (IOException | RuntimeException exception) {
+            // a malformed payload is set aside, replaying it would fail on every start
+            Log.w(TAG, "quarantining clock-ins that could not be read", exception);
+            JournalHelper.closeQuietly(reader);
+            return reject(journal);
+        }
+
+        JournalHelper.closeQuietly(reader);
+
+        if (clockIns == null || clockIns.isEmpty()) {
+            JournalHelper.remove(journal);
+            return false;
+        }
+
+        try {
+            // a replayed journal keeps the time it was received at
+            DatabaseHelper.appendClockIns(mContext, profileId, clockIns, journal.lastModified());
+        } catch (IOException | RuntimeException exception) {
+            // a failure to save, e.g. of the key store or the storage, may pass so the journal is kept for a retry
+            Log.w(TAG, "deferring clock-ins that could not be saved to the next start", exception);
+            mIsSaveDeferred = true;
+            return false;
+        }
+
+        JournalHelper.remove(journal);
+        return true;
+    }
+
+    // the listeners are called so the user is told the payload was set aside
+    @WorkerThread
+    private boolean reject(@NonNull final File journal) {
+        JournalHelper.quarantine(mContext, journal);
+        mRejectedCount.incrementAndGet();
+        return true;
+    }
+
+    @WorkerThread
+    private void removePending(@NonNull final String profileId, final long sequence) {
+        for (File journal : JournalHelper.fetchPending(mContext)) {
+            if (JournalHelper.getSequence(journal) < sequence && profileId.equals(JournalHelper.getProfileId(journal))) {
+                JournalHelper.remove(journal);
+            }
+        }
+    }
+
+    @MainThread
+    private void notifyListeners() {
+        for (Listener listener : new ArrayList<>(mListeners)) {
+            listener.onClockInsChanged();
+        }
+    }
+
+    //endregion
+
+    //region - Entry
+
+    // either a journaled payload or a reset of the profile's clock-ins
+    private static final class Entry {
+
+        private final String profileId;
+        private final long sequence;
+        private final File journal;
+
+        private Entry(final String profileId, final long sequence, final File journal) {
+            this.profileId = profileId;
+            this.sequence = sequence;
+            this.journal = journal;
+        }
+
+    }
+
+    //endregion
+
+    //region - Listener
+
+    public interface Listener {
+        void onClockInsChanged();
+    }
+
+    public interface JournalListener {
+        void onJournaled();
+    }
+
+    //endregion
+
+}
@@ -1,28 +1,46 @@
 package ai.carol.deeplinking.manager;
 
 import android.app.Activity;
+import android.content.ClipData;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
 import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
+import android.util.Log;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 
+import java.io.IOException;
 import java.util.List;
 
 import ai.carol.deeplinking.helper.AlertHelper;
-import ai.carol.deeplinking.helper.ConverterHelper;
-import ai.carol.deeplinking.model.ClockInObject;
+import ai.carol.deeplinking.helper.CryptoHelper;
 
 public final class ClockInManager {
 
+    private static final String TAG = "ClockInManager";
+
+    private static final String DATA_PARAMETER = "data";
+    private static final String DATA_URI_PARAMETER = "dataUri";
+
+    private static final long REQUEST_DEBOUNCE_MILLIS = 2_000;
+    private static final long REQUEST_TIMEOUT_MILLIS = 5 * 60_000;
+
+    private static final Object sRequestLock = new Object();
+    private static Request sRequest;
+
     private final Context mContext;
 
     public ClockInManager(@NonNull final Context context) {
         mContext = context;
     }
 
+    @MainThread
     public boolean startClockInActivity(@NonNull final Activity activity,
                                         @NonNull final String organization,
                                         @NonNull final String environment,
@@ -45,6 +63,12 @@ public final class ClockInManager {
                 .appendQueryParameter("appIdentifier", appIdentifier);
 
         final Uri uri = builder.build();
+        final String requestKey = CryptoHelper.hash(uri.toString());
+
+        // an identical request does not launch Clock-In again while the first one waits for its callback
+        if (isRequestPending(requestKey)) {
+            return true;
+        }
 
         Intent clockInIntent = new Intent(Intent.ACTION_VIEW, uri);
         clockInIntent = clockInIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK | Intent.FLAG_ACTIVITY_NO_HISTORY);
@@ -53,6 +77,7 @@ public final class ClockInManager {
         List<ResolveInfo> activities = packageManager.queryIntentActivities(clockInIntent, 0);
 
         if (activities.size() > 0) {
+            beginRequest(requestKey);
             activity.startActivity(clockInIntent);
             return true;
         } else {
@@ -61,7 +86,7 @@ public final class ClockInManager {
         }
     }
 
-    public List<ClockInObject> getClockIns(final Intent intent) {
+    public Uri getClockInsUri(final Intent intent) {
         if (intent == null) {
             return null;
         }
@@ -79,12 +104,106 @@ public final class ClockInManager {
             return null;
         }
 
-        final String clockInsStr = intentData.getQueryParameter("data");
-        if (clockInsStr == null) {
+        return intentData;
+    }
+
+    // IMPORTANT - a read grant only covers the intent's data and clip data, the dataUri parameter is only readable
+    // when Clock-In called grantUriPermission for this package, so the clip data is looked at first
+    public Uri getClockInsContentUri(final Intent intent, final Uri intentData) {
+        if (intent == null || intentData == null) {
+            return null;
+        }
+
+        final ClipData clipData = intent.getClipData();
+        if (clipData != null && clipData.getItemCount() > 0 && isContentUri(clipData.getItemAt(0).getUri())) {
+            return clipData.getItemAt(0).getUri();
+        }
+
+        final String clockInsUriStr = intentData.getQueryParameter(DATA_URI_PARAMETER);
+        final Uri clockInsUri = clockInsUriStr == null ? null : Uri.parse(clockInsUriStr);
+
+        return isContentUri(clockInsUri) ? clockInsUri : null;
+    }
+
+    // IMPORTANT - open it while the caller still holds the read grant of the content:// uri
+    public ParcelFileDescriptor openClockInsDescriptor(final Uri clockInsUri) {
+        if (clockInsUri == null) {
+            return null;
+        }
+
+        try {
+            return mContext.getContentResolver().openFileDescriptor(clockInsUri, "r");
+        } catch (IOException | SecurityException exception) {
+            Log.w(TAG, "could not open the shared clock-ins, falling back to the inline ones", exception);
+            return null;
+        }
+    }
+
+    public String getClockInsData(final Uri intentData) {
+        if (intentData == null) {
             return null;
         }
 
-        return ConverterHelper.getClockInsFromString(clockInsStr);
+        return intentData.getQueryParameter(DATA_PARAMETER);
     }
 
+    // called once Clock-In answered, or when the caller is back without an answer
+    public static void completeRequest() {
+        synchronized (sRequestLock) {
+            if (sRequest != null) {
+                sRequest.isInFlight = false;
+            }
+        }
+    }
+
+    //region - Private Helper
+
+    private static boolean isContentUri(final Uri uri) {
+        return uri != null && ContentResolver.SCHEME_CONTENT.equals(uri.getScheme());
+    }
+
+    //endregion
+
+    //region - Private Request
+
+    // a request that is never answered stops holding the next ones back after the timeout
+    private static boolean isRequestPending(@NonNull final String key) {
+        synchronized (sRequestLock) {
+            final Request request = sRequest;
+            if (request == null || !request.key.equals(key)) {
+                return false;
+            }
+
+            final long elapsedMillis = SystemClock.elapsedRealtime() - request.startedAt;
+            return elapsedMillis <= REQUEST_DEBOUNCE_MILLIS || request.isInFlight && elapsedMillis <= REQUEST_TIMEOUT_MILLIS;
+        }
+    }
+
+    private static void beginRequest(@NonNull final String key) {
+        synchronized (sRequestLock) {
+            sRequest = new Request(key, SystemClock.elapsedRealtime());
+        }
+    }
+
+    //endregion
+
+    //region - Request
+
+    private static final class Request {
+
+        private final String key;
+        private final long startedAt;
+
+        // guarded by sRequestLock
+        private boolean isInFlight = true;
+
+        private Request(@NonNull final String key, final long startedAt) {
+            this.key = key;
+            this.startedAt = startedAt;
+        }
+
+    }
+
+    //endregion
+
 }
@@ -0,0 +1,75 @@
+package ai.carol.deeplinking.model;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class ClockInSummaryObject {
+
+    @SerializedName("count")
+    private int count;
+
+    @SerializedName("employeeCounts")
+    private Map<String, Integer> employeeCounts = new HashMap<>();
+
+    @SerializedName("firstClockInAt")
+    private long firstClockInAt = Long.MAX_VALUE;
+
+    @SerializedName("lastClockInAt")
+    private long lastClockInAt = Long.MIN_VALUE;
+
+    @SerializedName("lastReceivedAt")
+    private long lastReceivedAt = Long.MIN_VALUE;
+
+
+    public ClockInSummaryObject() { }
+
+    public ClockInSummaryObject(final int count,
+                                @NonNull final Map<String, Integer> employeeCounts,
+                                final long firstClockInAt,
+                                final long lastClockInAt,
+                                final long lastReceivedAt) {
+        this.count = count;
+        this.employeeCounts = employeeCounts;
+        this.firstClockInAt = firstClockInAt;
+        this.lastClockInAt = lastClockInAt;
+        this.lastReceivedAt = lastReceivedAt;
+    }
+
+
+    public int getCount() {
+        return count;
+    }
+
+    public Map<String, Integer> getEmployeeCounts() {
+        return employeeCounts;
+    }
+
+    public int getEmployeesCount() {
+        return employeeCounts.size();
+    }
+
+    public boolean hasClockInTimes() {
+        return firstClockInAt <= lastClockInAt;
+    }
+
+    public long getFirstClockInAt() {
+        return firstClockInAt;
+    }
+
+    public long getLastClockInAt() {
+        return lastClockInAt;
+    }
+
+    public boolean hasReceivedAt() {
+        return lastReceivedAt != Long.MIN_VALUE;
+    }
+
+    public long getLastReceivedAt() {
+        return lastReceivedAt;
+    }
+
+}
@@ -0,0 +1,46 @@
+package ai.carol.deeplinking.model;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.annotations.SerializedName;
+
+public final class ProfileObject {
+
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("organization")
+    private String organization;
+
+    @SerializedName("environment")
+    private String environment;
+
+    @SuppressWarnings("unused")
+    private ProfileObject() { }
+
+    public ProfileObject(@NonNull final String id, @NonNull final String organization, @NonNull final String environment) {
+        this.id = id;
+        this.organization = organization;
+        this.environment = environment;
+    }
+
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOrganization() {
+        return organization;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return organization + " / " + environment;
+    }
+
+}
@@ -0,0 +1,270 @@
+package ai.carol.deeplinking.activity;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.Robolectric;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.security.SecureRandom;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TimeZone;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import ai.carol.deeplinking.BuildConfig;
+import ai.carol.deeplinking.R;
+import ai.carol.deeplinking.helper.CryptoHelper;
+import ai.carol.deeplinking.helper.DatabaseHelper;
+import ai.carol.deeplinking.manager.ClockInIntakeQueue;
+import ai.carol.deeplinking.model.ClockInSummaryObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// Feeds a Clock-In deep link through ReceiveDataActivity and waits for MainActivity to show it, then checks
+// the wall time, the bytes allocated by every thread and the peak heap against performance-budgets.properties.
+// The key store is not available to Robolectric, so the test provides the data key and every segment is encrypted
+// with it in software, as on a device.
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = 28)
+public final class ReceiveToDisplayPerformanceTest {
+
+    private static final String BUDGETS_RESOURCE = "/performance-budgets.properties";
+    private static final long FIRST_CLOCKIN_AT = 1559548800000L;
+    private static final long CLOCKIN_INTERVAL_MILLIS = 60_000L;
+    private static final int EMPLOYEES_COUNT = 50;
+    private static final long TIMEOUT_MILLIS = 10 * 60_000L;
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+    private static final int KEY_LENGTH = 32;
+
+    private final int mSize;
+
+    public ReceiveToDisplayPerformanceTest(final int size) {
+        mSize = size;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0} punches")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] { { 1 }, { 100 }, { 10_000 }, { 100_000 } });
+    }
+
+    @Before
+    public void setUp() {
+        final byte[] keyBytes = new byte[KEY_LENGTH];
+        new SecureRandom().nextBytes(keyBytes);
+
+        CryptoHelper.setKey(new SecretKeySpec(keyBytes, "AES"));
+        ClockInIntakeQueue.resetInstance();
+        DatabaseHelper.resetCache();
+    }
+
+    @After
+    public void tearDown() {
+        ClockInIntakeQueue.resetInstance();
+        DatabaseHelper.resetCache();
+        CryptoHelper.setKey(null);
+    }
+
+    @Test
+    public void receivesAndDisplaysWithinBudget() throws IOException {
+        final Context context = ApplicationProvider.getApplicationContext();
+        final Intent intent = new Intent(Intent.ACTION_VIEW, createClockInsUri());
+
+        System.gc();
+        resetPeakHeap();
+        final Map<Long, Long> allocatedBytes = getAllocatedBytes();
+        final long startedAt = System.nanoTime();
+
+        final ActivityController<ReceiveDataActivity> receiveController = Robolectric.buildActivity(ReceiveDataActivity.class, intent).create();
+        final ReceiveDataActivity receiveActivity = receiveController.get();
+
+        // the writer runs on a real thread, only the main looper is driven by the test
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!receiveActivity.isFinishing() || DatabaseHelper.fetchClockInSummary(context).getCount() < mSize) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out receiving " + mSize + " clock-ins");
+            }
+
+            ShadowLooper.idleMainLooper();
+            sleep();
+        }
+
+        final MainActivity mainActivity = Robolectric.buildActivity(MainActivity.class).setup().get();
+
+        final long wallMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+        final long allocatedMegabytes = getAllocatedBytesSince(allocatedBytes) / BYTES_PER_MEGABYTE;
+        final long peakHeapMegabytes = getPeakHeap() / BYTES_PER_MEGABYTE;
+
+        assertDisplayed(context, mainActivity);
+
+        System.out.println(String.format(Locale.US, "%d punches: %d ms, %d MB allocated, %d MB peak heap", mSize, wallMillis, allocatedMegabytes, peakHeapMegabytes));
+
+        final Properties budgets = loadBudgets();
+        assertWithinBudget(budgets, "wallMillis", wallMillis);
+        assertWithinBudget(budgets, "allocatedMegabytes", allocatedMegabytes);
+        assertWithinBudget(budgets, "peakHeapMegabytes", peakHeapMegabytes);
+    }
+
+    //region - Private Payload
+
+    private Uri createClockInsUri() {
+        final StringBuilder builder = new StringBuilder(mSize * 160);
+
+        builder.append('[');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append("{\"name\":\"clockin\",\"data\":{\"clockinDatetime\":\"")
+                    .append(getDatetimeString(FIRST_CLOCKIN_AT + i * CLOCKIN_INTERVAL_MILLIS))
+                    .append("\",\"clockinMode\":1,\"deviceCode\":\"device\",\"employeePersonId\":\"employee-")
+                    .append(i % EMPLOYEES_COUNT)
+                    .append("\"}}");
+        }
+        builder.append(']');
+
+        return new Uri.Builder()
+                .scheme(BuildConfig.SCHEME)
+                .authority("clockin")
+                .appendQueryParameter("data", builder.toString())
+                .build();
+    }
+
+    private static String getDatetimeString(final long epochMillis) {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        return format.format(new Date(epochMillis));
+    }
+
+    //endregion
+
+    //region - Private Assert
+
+    private void assertDisplayed(final Context context, final MainActivity mainActivity) {
+        final ClockInSummaryObject summary = DatabaseHelper.fetchClockInSummary(context);
+        final long lastClockInAt = FIRST_CLOCKIN_AT + (mSize - 1) * CLOCKIN_INTERVAL_MILLIS;
+
+        assertEquals(mSize, summary.getCount());
+        assertEquals(Math.min(mSize, EMPLOYEES_COUNT), summary.getEmployeesCount());
+        assertEquals(FIRST_CLOCKIN_AT, summary.getFirstClockInAt());
+        assertEquals(lastClockInAt, summary.getLastClockInAt());
+        assertEquals(mSize, DatabaseHelper.fetchClockInsCount(context));
+
+        final AppCompatTextView counterView = mainActivity.findViewById(R.id.txt_clockins_counter);
+        final AppCompatTextView clockInsView = mainActivity.findViewById(R.id.txt_clockins);
+
+        assertEquals(String.valueOf(mSize), counterView.getText().toString());
+        assertTrue(clockInsView.getText().toString().contains(getDatetimeString(lastClockInAt)));
+    }
+
+    private void assertWithinBudget(final Properties budgets, final String name, final long value) {
+        final String key = mSize + "." + name;
+        final String budget = budgets.getProperty(key);
+
+        if (budget == null) {
+            fail("No budget for " + key);
+        }
+
+        assertTrue(key + " is " + value + ", the budget is " + budget, value <= Long.parseLong(budget.trim()));
+    }
+
+    private static Properties loadBudgets() throws IOException {
+        final Properties budgets = new Properties();
+
+        try (InputStream stream = ReceiveToDisplayPerformanceTest.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (stream == null) {
+                throw new IOException("Missing " + BUDGETS_RESOURCE);
+            }
+
+            budgets.load(stream);
+        }
+
+        return budgets;
+    }
+
+    //endregion
+
+    //region - Private Measure
+
+    private static Map<Long, Long> getAllocatedBytes() {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final Map<Long, Long> allocatedBytes = new HashMap<>();
+
+        for (long threadId : threadBean.getAllThreadIds()) {
+            allocatedBytes.put(threadId, threadBean.getThreadAllocatedBytes(threadId));
+        }
+
+        return allocatedBytes;
+    }
+
+    // threads started in between, like the intake writer, count from zero; the ones that ended are lost
+    private static long getAllocatedBytesSince(final Map<Long, Long> allocatedBytes) {
+        long total = 0;
+
+        for (Map.Entry<Long, Long> entry : getAllocatedBytes().entrySet()) {
+            final Long before = allocatedBytes.get(entry.getKey());
+            total += Math.max(entry.getValue() - (before == null ? 0 : before), 0);
+        }
+
+        return total;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // the pools peak at different times, so the sum is an upper bound of the heap peak
+    private static long getPeakHeap() {
+        long total = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                total += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return total;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,97 @@
+package ai.carol.deeplinking.helper;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Compares the parser with the SimpleDateFormat it replaced on a batch shaped like a Clock-In payload,
+// a few days of punches with and without offsets. Prints the cost per datetime of each one.
+public final class DateTimeParserBenchmarkTest {
+
+    private static final TimeZone ZONE = TimeZone.getTimeZone("America/Sao_Paulo");
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Test
+    public void parsesFasterThanSimpleDateFormat() throws ParseException {
+        final String[] texts = createTexts();
+        final DateTimeParser parser = new DateTimeParser(ZONE);
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        format.setTimeZone(ZONE);
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += parseWithParser(parser, texts) - parseWithFormat(format, texts);
+        }
+        assertEquals(0, checksum);
+
+        long parserNanos = Long.MAX_VALUE;
+        long formatNanos = Long.MAX_VALUE;
+
+        // the best round of each is kept, it is the least disturbed by the rest of the build
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long startedAt = System.nanoTime();
+            checksum += parseWithParser(parser, texts);
+            parserNanos = Math.min(parserNanos, System.nanoTime() - startedAt);
+
+            startedAt = System.nanoTime();
+            checksum -= parseWithFormat(format, texts);
+            formatNanos = Math.min(formatNanos, System.nanoTime() - startedAt);
+        }
+        assertEquals(0, checksum);
+
+        System.out.println(String.format(Locale.US, "DateTimeParser: %.1f ns/datetime, SimpleDateFormat: %.1f ns/datetime",
+                (double) parserNanos / BATCH_SIZE, (double) formatNanos / BATCH_SIZE));
+
+        assertTrue("DateTimeParser took " + parserNanos + "ns, SimpleDateFormat " + formatNanos + "ns", parserNanos < formatNanos);
+    }
+
+    //region - Private
+
+    private static String[] createTexts() {
+        final String[] texts = new String[BATCH_SIZE];
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final int day = 1 + (i / 2_000);
+            final int minuteOfDay = (i * 7) % (24 * 60);
+            final String time = String.format(Locale.US, "2019-06-%02dT%02d:%02d:%02d", day, minuteOfDay / 60, minuteOfDay % 60, i % 60);
+
+            // one in four carries the offset of the zone, both forms parse to the same instant
+            texts[i] = i % 4 == 0 ? time + "-03:00" : time;
+        }
+
+        return texts;
+    }
+
+    private static long parseWithParser(final DateTimeParser parser, final String[] texts) {
+        long sum = 0;
+
+        for (String text : texts) {
+            sum += parser.parseEpochMillis(text);
+        }
+
+        return sum;
+    }
+
+    // SimpleDateFormat has no optional offset, the suffix is cut as it is always the offset of the zone
+    private static long parseWithFormat(final SimpleDateFormat format, final String[] texts) throws ParseException {
+        long sum = 0;
+
+        for (String text : texts) {
+            sum += format.parse(text.length() > 19 ? text.substring(0, 19) : text).getTime();
+        }
+
+        return sum;
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,80 @@
+package ai.carol.deeplinking.helper;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public final class DateTimeParserTest {
+
+    private static final TimeZone SAO_PAULO = TimeZone.getTimeZone("America/Sao_Paulo");
+
+    @Test
+    public void parsesTimesWithOffsets() {
+        final DateTimeParser parser = new DateTimeParser(SAO_PAULO);
+
+        assertEquals(1546336800000L, parser.parseEpochMillis("2019-01-01T10:00:00Z"));
+        assertEquals(0, parser.getOffsetMillis());
+
+        assertEquals(1546336800000L, parser.parseEpochMillis("2019-01-01T07:00:00-03:00"));
+        assertEquals(-3 * 3600000, parser.getOffsetMillis());
+
+        assertEquals(1546336800000L, parser.parseEpochMillis("2019-01-01 15:30:00+0530"));
+        assertEquals(1546336800123L, parser.parseEpochMillis("2019-01-01T10:00:00.123456Z"));
+        assertEquals(1546336800000L, parser.parseEpochMillis("2019-01-01T10:00Z"));
+    }
+
+    @Test
+    public void parsesTimesWithoutOffsetInTheDefaultZone() throws Exception {
+        final DateTimeParser parser = new DateTimeParser(SAO_PAULO);
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        format.setTimeZone(SAO_PAULO);
+
+        // summer time, standard time and both sides of the transitions
+        for (String text : new String[] { "2019-01-01T10:00:00", "2019-06-01T12:00:00", "2018-11-04T00:30:00", "2018-02-17T23:30:00", "2018-02-18T00:30:00" }) {
+            assertEquals(text, format.parse(text).getTime(), parser.parseEpochMillis(text));
+        }
+
+        parser.parseEpochMillis("2019-01-01T10:00:00");
+        assertEquals(-2 * 3600000, parser.getOffsetMillis());
+
+        parser.parseEpochMillis("2019-06-01T12:00:00");
+        assertEquals(-3 * 3600000, parser.getOffsetMillis());
+    }
+
+    @Test
+    public void parsesEpochMillis() {
+        final DateTimeParser parser = new DateTimeParser(SAO_PAULO);
+
+        assertEquals(1546300800000L, parser.parseEpochMillis("1546300800000"));
+        assertEquals(100000000000L, parser.parseEpochMillis("100000000000"));
+    }
+
+    @Test
+    public void rejectsInvalidTexts() {
+        final DateTimeParser parser = new DateTimeParser(SAO_PAULO);
+
+        for (String text : new String[] { null, "", "20190101", "12345678901", "1234567890123456789", "2019-01-01", "2019-02-29T10:00:00",
+                "2019-13-01T10:00:00", "2019-01-01T24:00:00", "2019-01-01X10:00:00", "2019-01-01T10:00:00.", "2019-01-01T10:00:00+19", "2019-01-01T10:00:00Zz" }) {
+            assertEquals(String.valueOf(text), DateTimeParser.INVALID_TIME, parser.parseEpochMillis(text));
+        }
+    }
+
+    @Test
+    public void reusesCachedDates() {
+        final DateTimeParser parser = new DateTimeParser(SAO_PAULO);
+
+        // more dates than the cache holds, each one parsed twice
+        for (int day = 1; day <= 20; day++) {
+            final String text = String.format(Locale.US, "2019-03-%02dT08:00:00Z", day);
+            final long expected = 1551398400000L + (day - 1) * 86400000L + 8 * 3600000L;
+
+            assertEquals(text, expected, parser.parseEpochMillis(text));
+            assertEquals(text, expected, parser.parseEpochMillis(text));
+        }
+    }
+
+}